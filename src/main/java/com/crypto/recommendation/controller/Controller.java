@@ -1,7 +1,11 @@
 package com.crypto.recommendation.controller;
 
 import com.crypto.recommendation.dto.CryptoNormalizedRangeDTO;
+import com.crypto.recommendation.dto.PriceDistributionDTO;
 import com.crypto.recommendation.dto.StatisticsDTO;
+import com.crypto.recommendation.dto.TickDTO;
+import com.crypto.recommendation.service.PriceDistributionService;
+import com.crypto.recommendation.service.TickIngestService;
 import com.crypto.recommendation.service.TradingStatisticsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,7 +13,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
@@ -29,9 +36,14 @@ public class Controller {
 
     private static final Logger logger = LoggerFactory.getLogger(Controller.class);
     private final TradingStatisticsService tradingStatisticsService;
+    private final TickIngestService tickIngestService;
+    private final PriceDistributionService priceDistributionService;
 
-    public Controller(TradingStatisticsService tradingStatisticsService) {
+    public Controller(TradingStatisticsService tradingStatisticsService, TickIngestService tickIngestService,
+                      PriceDistributionService priceDistributionService) {
         this.tradingStatisticsService = tradingStatisticsService;
+        this.tickIngestService = tickIngestService;
+        this.priceDistributionService = priceDistributionService;
     }
 
     /**
@@ -48,6 +60,39 @@ public class Controller {
         return (statisticsDTO != null) ? ResponseEntity.ok(statisticsDTO) : ResponseEntity.notFound().build();
     }
 
+    /**
+     * Endpoint to get the approximate price quantiles and histogram of a cryptocurrency
+     * over an optional date range.
+     *
+     * @param symbol the cryptocurrency symbol
+     * @param from the first day in 'yyyy-MM-dd' format, defaults to the oldest day
+     * @param to the last day in 'yyyy-MM-dd' format, defaults to the newest day
+     * @param quantiles the quantiles to estimate, each between 0 and 1
+     * @param bins the number of histogram bins
+     * @return a {@link ResponseEntity} containing the {@link PriceDistributionDTO}, a 404 if no data
+     * is found, or a 400 if a parameter is invalid
+     */
+    @GetMapping("/{symbol}/distribution")
+    public ResponseEntity<PriceDistributionDTO> getPriceDistribution(@PathVariable String symbol,
+                                                                     @RequestParam(required = false) String from,
+                                                                     @RequestParam(required = false) String to,
+                                                                     @RequestParam(defaultValue = "0.05,0.5,0.95") List<Double> quantiles,
+                                                                     @RequestParam(defaultValue = "10") int bins) {
+        try {
+            LocalDate parsedFrom = from != null ? LocalDate.parse(from) : null;
+            LocalDate parsedTo = to != null ? LocalDate.parse(to) : null;
+            logger.info("Fetching price distribution for symbol: {} from {} to {}", symbol, parsedFrom, parsedTo);
+
+            return priceDistributionService.getPriceDistribution(symbol, parsedFrom, parsedTo, quantiles, bins)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            logger.error("Invalid price distribution query for symbol: {}", symbol, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new PriceDistributionDTO());
+        }
+    }
+
     /**
      * Endpoint to get a list of all cryptocurrencies sorted by their normalized range desc.
      *
@@ -81,4 +126,25 @@ public class Controller {
                     .body(new CryptoNormalizedRangeDTO());
         }
     }
+
+    /**
+     * Endpoint to push a live price tick into the service.
+     *
+     * @param tick the {@link TickDTO} to ingest
+     * @return a {@link ResponseEntity} with 201 once the tick is persisted, a 400 if the tick is invalid,
+     * or a 503 if the write-ahead log is not accepting ticks
+     */
+    @PostMapping("/ticks")
+    public ResponseEntity<Void> ingestTick(@RequestBody TickDTO tick) {
+        try {
+            tickIngestService.ingest(tick);
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid tick provided: {}", tick, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IllegalStateException e) {
+            logger.error("Tick could not be persisted: {}", tick, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
 }
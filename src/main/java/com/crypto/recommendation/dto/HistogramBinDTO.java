@@ -0,0 +1,19 @@
+package com.crypto.recommendation.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * HistogramBinDTO is a DTO that represents one price bin of a
+ * price distribution histogram.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+@Data
+public class HistogramBinDTO {
+    private BigDecimal lowerBound;
+    private BigDecimal upperBound;
+    private long count;
+}
@@ -0,0 +1,27 @@
+package com.crypto.recommendation.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PriceDistributionDTO is a DTO that holds the approximate price quantiles
+ * and histogram of a cryptocurrency over a date range.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+@Data
+public class PriceDistributionDTO {
+    private String symbol;
+    private LocalDate from;
+    private LocalDate to;
+    private long count;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Map<Double, BigDecimal> quantiles;
+    private List<HistogramBinDTO> histogram;
+}
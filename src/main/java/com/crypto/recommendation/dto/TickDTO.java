@@ -0,0 +1,19 @@
+package com.crypto.recommendation.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * TickDTO is a DTO that represents a single live price tick
+ * pushed into the service.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+@Data
+public class TickDTO {
+    private Long timestamp;
+    private String symbol;
+    private BigDecimal price;
+}
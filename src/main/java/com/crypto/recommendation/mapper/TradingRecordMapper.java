@@ -1,11 +1,18 @@
 package com.crypto.recommendation.mapper;
 
 import com.crypto.recommendation.dto.CryptoNormalizedRangeDTO;
+import com.crypto.recommendation.dto.HistogramBinDTO;
+import com.crypto.recommendation.dto.PriceDistributionDTO;
 import com.crypto.recommendation.dto.StatisticsDTO;
 import com.crypto.recommendation.model.TradingRecord;
+import com.crypto.recommendation.sketch.QuantileSketch;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import static com.crypto.recommendation.util.DateUtil.convertToLocalDate;
 import static com.crypto.recommendation.util.TradingRecordUtil.findMaxPriceRecord;
@@ -53,6 +60,53 @@ public class TradingRecordMapper {
         return cryptoNormalizedRangeDTO;
     }
 
+    /**
+     * Builds a {@link PriceDistributionDTO} from a {@link QuantileSketch} covering the given range.
+     *
+     * @param symbol the cryptocurrency symbol
+     * @param from the first day covered by the sketch
+     * @param to the last day covered by the sketch
+     * @param sketch the non-empty merged {@link QuantileSketch}
+     * @param quantiles the quantiles to estimate
+     * @param bins the number of equal-width histogram bins between the min and max price
+     * @return a {@link PriceDistributionDTO}
+     */
+    public static PriceDistributionDTO buildPriceDistributionDTO(String symbol, LocalDate from, LocalDate to,
+                                                                 QuantileSketch sketch, List<Double> quantiles, int bins) {
+        QuantileSketch.SortedView view = sketch.sortedView(); // sorted once for all quantiles and bins
+        Map<Double, BigDecimal> quantilePrices = new TreeMap<>();
+        for (Double quantile : quantiles) {
+            quantilePrices.put(quantile, BigDecimal.valueOf(view.quantile(quantile)));
+        }
+
+        int binCount = sketch.getMin() == sketch.getMax() ? 1 : bins;
+        double width = (sketch.getMax() - sketch.getMin()) / binCount;
+        List<HistogramBinDTO> histogram = new ArrayList<>(binCount);
+        long previousRank = 0;
+        for (int i = 0; i < binCount; i++) {
+            double upper = i == binCount - 1 ? sketch.getMax() : sketch.getMin() + (i + 1) * width;
+            long rank = view.rank(upper);
+
+            HistogramBinDTO bin = new HistogramBinDTO();
+            bin.setLowerBound(BigDecimal.valueOf(sketch.getMin() + i * width));
+            bin.setUpperBound(BigDecimal.valueOf(upper));
+            bin.setCount(rank - previousRank);
+            histogram.add(bin);
+            previousRank = rank;
+        }
+
+        PriceDistributionDTO priceDistributionDTO = new PriceDistributionDTO();
+        priceDistributionDTO.setSymbol(symbol);
+        priceDistributionDTO.setFrom(from);
+        priceDistributionDTO.setTo(to);
+        priceDistributionDTO.setCount(sketch.getCount());
+        priceDistributionDTO.setMinPrice(BigDecimal.valueOf(sketch.getMin()));
+        priceDistributionDTO.setMaxPrice(BigDecimal.valueOf(sketch.getMax()));
+        priceDistributionDTO.setQuantiles(quantilePrices);
+        priceDistributionDTO.setHistogram(histogram);
+        return priceDistributionDTO;
+    }
+
     /**
      * Creates a {@link TradingRecord} object from a CSV row.
      *
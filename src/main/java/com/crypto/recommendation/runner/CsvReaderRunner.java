@@ -1,8 +1,10 @@
 package com.crypto.recommendation.runner;
 
 import com.crypto.recommendation.service.CsvReaderService;
+import com.crypto.recommendation.service.TickIngestService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -18,26 +20,34 @@ public class CsvReaderRunner implements CommandLineRunner {
     private static final Logger logger = LoggerFactory.getLogger(CsvReaderRunner.class);
 
     private final CsvReaderService csvReaderService;
+    private final TickIngestService tickIngestService;
+    private final String csvDirectory;
 
-    public CsvReaderRunner(CsvReaderService csvReaderService) {
+    public CsvReaderRunner(CsvReaderService csvReaderService, TickIngestService tickIngestService,
+                           @Value("${csv.directory:classpath:data}") String csvDirectory) {
         this.csvReaderService = csvReaderService;
+        this.tickIngestService = tickIngestService;
+        this.csvDirectory = csvDirectory;
     }
 
     /**
      * This method is executed when the Spring Boot application starts.
-     * It reads all CSV files from the specified directory.
+     * It reads all CSV files from the specified directory, then replays
+     * the write-ahead log of live ticks on top of them.
      *
      * @param args command-line arguments passed to the application
      */
     @Override
     public void run(String... args) {
-        logger.info("Starting to read CSV files from directory: data");
+        logger.info("Starting to read CSV files from directory: {}", csvDirectory);
 
         try {
-            csvReaderService.readAllCsvFilesFromDirectory("data");
-            logger.info("Successfully processed CSV files from directory: data");
+            csvReaderService.readAllCsvFilesFromDirectory(csvDirectory);
+            logger.info("Successfully processed CSV files from directory: {}", csvDirectory);
         } catch (Exception e) {
-            logger.error("Error occurred while reading CSV files from the directory 'data'", e);
+            logger.error("Error occurred while reading CSV files from the directory '{}'", csvDirectory, e);
         }
+
+        tickIngestService.recover();
     }
 }
\ No newline at end of file
@@ -11,7 +11,11 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
 import static com.crypto.recommendation.mapper.TradingRecordMapper.createTradingRecord;
 
@@ -31,18 +35,25 @@ import static com.crypto.recommendation.mapper.TradingRecordMapper.createTrading
 public class CsvReaderService {
     private static final Logger logger = LoggerFactory.getLogger(CsvReaderService.class);
 
-    protected final List<TradingRecord> records = new ArrayList<>();
+    private final List<TradingRecord> records = new ArrayList<>();
+    private final ReadWriteLock recordsLock = new ReentrantReadWriteLock();
+    private final PriceDistributionService priceDistributionService;
+
+    public CsvReaderService(PriceDistributionService priceDistributionService) {
+        this.priceDistributionService = priceDistributionService;
+    }
 
     /**
      * This method uses a resource pattern to identify CSV
-     * files in the classpath and processes each one.
+     * files in the given location and processes each one.
      *
-     * @param folderPath the folder path where the CSV files are stored
+     * @param folderPath the folder location where the CSV files are stored,
+     *                   e.g. {@code classpath:data} or {@code file:/var/data}
      */
     public void readAllCsvFilesFromDirectory(String folderPath) {
         try {
             Resource[] resources = new PathMatchingResourcePatternResolver()
-                    .getResources("classpath:" + folderPath + "/*.csv");
+                    .getResources(folderPath + "/*.csv");
 
             if (resources.length == 0) {
                 logger.warn("No CSV files found in directory: {}", folderPath);
@@ -60,12 +71,14 @@ public class CsvReaderService {
 
     /**
      * Processes a single CSV file and adds the TradingRecord objects to the records list.
-     * Each line of the CSV file is converted to a TradingRecord.
+     * Each line of the CSV file is converted to a TradingRecord, and the file is
+     * published to the records list in a single step.
      *
      * @param resource the CSV file resource to be processed
      * @throws Exception if an error occurs while reading the CSV file
      */
-    private void processCsvFile(Resource resource) throws Exception {
+    void processCsvFile(Resource resource) throws Exception {
+        List<TradingRecord> fileRecords = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
             String line;
             reader.readLine(); // Skip the header line
@@ -74,8 +87,43 @@ public class CsvReaderService {
                 String[] values = line.split(",");
 
                 TradingRecord tradingRecord = createTradingRecord(values);
-                records.add(tradingRecord);
+                fileRecords.add(tradingRecord);
             }
         }
+        addRecords(fileRecords);
+    }
+
+    /**
+     * Publishes records to the records list in a single step and adds their
+     * prices to the daily price distribution sketches.
+     *
+     * @param newRecords the list of {@link TradingRecord} to add
+     */
+    void addRecords(List<TradingRecord> newRecords) {
+        priceDistributionService.record(newRecords);
+
+        recordsLock.writeLock().lock();
+        try {
+            records.addAll(newRecords);
+        } finally {
+            recordsLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query against the records list while holding the read lock, so appends
+     * cost only the size of the batch and never disturb a running query.
+     * The query must not keep a reference to the list once it returns.
+     *
+     * @param query the function evaluated over a read-only view of the records
+     * @return the result of the query
+     */
+    <T> T readRecords(Function<List<TradingRecord>, T> query) {
+        recordsLock.readLock().lock();
+        try {
+            return query.apply(Collections.unmodifiableList(records));
+        } finally {
+            recordsLock.readLock().unlock();
+        }
     }
 }
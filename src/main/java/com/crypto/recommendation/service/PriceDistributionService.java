@@ -0,0 +1,140 @@
+package com.crypto.recommendation.service;
+
+import com.crypto.recommendation.dto.PriceDistributionDTO;
+import com.crypto.recommendation.model.TradingRecord;
+import com.crypto.recommendation.sketch.QuantileSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.crypto.recommendation.mapper.TradingRecordMapper.buildPriceDistributionDTO;
+
+/**
+ * Service to answer percentile and price distribution queries.
+ * A {@link QuantileSketch} is kept per symbol per day, plus a monthly rollup, and both
+ * are updated as records are ingested. A query merges the monthly sketches of the
+ * months fully inside the requested range and the daily sketches of the partial
+ * months at its edges, so it merges at most about 60 daily sketches whatever its length.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+@Service
+public class PriceDistributionService {
+    private static final Logger logger = LoggerFactory.getLogger(PriceDistributionService.class);
+    private static final int MAX_HISTOGRAM_BINS = 1000;
+
+    private final Map<String, SymbolSketches> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the prices of the given records to the daily and monthly sketches of their symbol.
+     *
+     * @param records the list of {@link TradingRecord} being ingested
+     */
+    public void record(List<TradingRecord> records) {
+        for (TradingRecord record : records) {
+            SymbolSketches symbolSketches = sketches
+                    .computeIfAbsent(record.getSymbol().toUpperCase(Locale.ROOT), symbol -> new SymbolSketches());
+            double price = record.getPrice().doubleValue();
+
+            update(symbolSketches.daily.computeIfAbsent(record.getTimestamp(), day -> new QuantileSketch()), price);
+            update(symbolSketches.monthly.computeIfAbsent(YearMonth.from(record.getTimestamp()),
+                    month -> new QuantileSketch()), price);
+        }
+    }
+
+    /**
+     * Calculates the approximate price quantiles and histogram for a cryptocurrency.
+     *
+     * @param symbol the symbol of the cryptocurrency
+     * @param from the first day of the range, or null for the oldest day
+     * @param to the last day of the range, or null for the newest day
+     * @param quantiles the quantiles to estimate, each between 0 and 1
+     * @param bins the number of equal-width histogram bins
+     * @return an Optional containing the PriceDistributionDTO, empty if there is no data in the range
+     * @throws IllegalArgumentException if the range, a quantile or the bin count is invalid
+     */
+    public Optional<PriceDistributionDTO> getPriceDistribution(String symbol, LocalDate from, LocalDate to,
+                                                               List<Double> quantiles, int bins) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after range end " + to);
+        }
+        if (bins < 1 || bins > MAX_HISTOGRAM_BINS) {
+            throw new IllegalArgumentException("Bins must be between 1 and " + MAX_HISTOGRAM_BINS + ": " + bins);
+        }
+        if (quantiles.stream().anyMatch(quantile -> quantile == null || !(quantile >= 0 && quantile <= 1))) {
+            throw new IllegalArgumentException("Quantiles must be numbers between 0 and 1: " + quantiles);
+        }
+
+        SymbolSketches symbolSketches = sketches.get(symbol.toUpperCase(Locale.ROOT));
+        if (symbolSketches == null || symbolSketches.daily.isEmpty()) {
+            logger.warn("No price distribution found for symbol: {}", symbol);
+            return Optional.empty();
+        }
+
+        NavigableMap<LocalDate, QuantileSketch> days = symbolSketches.daily;
+        LocalDate rangeFrom = from != null ? from : days.firstKey();
+        LocalDate rangeTo = to != null ? to : days.lastKey();
+        // A range covering all the data at an edge can use that edge's whole-month rollup.
+        QuantileSketch merged = mergeRange(symbolSketches,
+                rangeFrom.isAfter(days.firstKey()) ? rangeFrom : days.firstKey().withDayOfMonth(1),
+                rangeTo.isBefore(days.lastKey()) ? rangeTo : YearMonth.from(days.lastKey()).atEndOfMonth());
+
+        if (merged.getCount() == 0) {
+            logger.warn("No records found for symbol {} between {} and {}", symbol, rangeFrom, rangeTo);
+            return Optional.empty();
+        }
+        return Optional.of(buildPriceDistributionDTO(symbol, rangeFrom, rangeTo, merged, quantiles, bins));
+    }
+
+    // Walks the range month by month: whole months come from the rollup, partial ones day by day.
+    private static QuantileSketch mergeRange(SymbolSketches symbolSketches, LocalDate from, LocalDate to) {
+        QuantileSketch merged = new QuantileSketch();
+        LocalDate day = from;
+        while (!day.isAfter(to)) {
+            YearMonth month = YearMonth.from(day);
+            LocalDate monthEnd = month.atEndOfMonth();
+
+            if (day.getDayOfMonth() == 1 && !monthEnd.isAfter(to)) {
+                merge(merged, symbolSketches.monthly.get(month));
+            } else {
+                LocalDate end = monthEnd.isAfter(to) ? to : monthEnd;
+                for (QuantileSketch sketch : symbolSketches.daily.subMap(day, true, end, true).values()) {
+                    merge(merged, sketch);
+                }
+            }
+            day = monthEnd.plusDays(1);
+        }
+        return merged;
+    }
+
+    private static void update(QuantileSketch sketch, double price) {
+        synchronized (sketch) {
+            sketch.update(price);
+        }
+    }
+
+    private static void merge(QuantileSketch target, QuantileSketch sketch) {
+        if (sketch == null) {
+            return;
+        }
+        synchronized (sketch) {
+            target.merge(sketch);
+        }
+    }
+
+    private static final class SymbolSketches {
+        private final NavigableMap<LocalDate, QuantileSketch> daily = new ConcurrentSkipListMap<>();
+        private final Map<YearMonth, QuantileSketch> monthly = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,161 @@
+package com.crypto.recommendation.service;
+
+import com.crypto.recommendation.dto.TickDTO;
+import com.crypto.recommendation.enums.SupportedCryptos;
+import com.crypto.recommendation.model.TradingRecord;
+import com.crypto.recommendation.wal.WriteAheadLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static com.crypto.recommendation.mapper.TradingRecordMapper.createTradingRecord;
+
+/**
+ * Service to ingest live price ticks.
+ * When the write-ahead log is enabled, a tick is only added to the records list
+ * once it is durable on disk, so it survives a crash and is replayed on restart.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+@Service
+public class TickIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(TickIngestService.class);
+    private static final String CSV_HEADER = "timestamp,symbol,price";
+
+    private final CsvReaderService csvReaderService;
+    private final WriteAheadLog writeAheadLog;
+    private volatile Exception recoveryFailure;
+
+    public TickIngestService(CsvReaderService csvReaderService,
+                             @Value("${wal.enabled:true}") boolean walEnabled,
+                             @Value("${wal.directory:wal}") String directory,
+                             @Value("${wal.segment-size-bytes:67108864}") long segmentSizeBytes,
+                             @Value("${wal.max-batch-size:1024}") int maxBatchSize) {
+        this.csvReaderService = csvReaderService;
+        this.writeAheadLog = walEnabled ? new WriteAheadLog(Path.of(directory), segmentSizeBytes, maxBatchSize) : null;
+    }
+
+    /**
+     * Loads the compacted ticks and replays the write-ahead log on top of the records
+     * already read, then starts accepting new ticks. If recovery fails, the failure is
+     * logged and live ticks are rejected until the service is restarted.
+     */
+    public void recover() {
+        if (writeAheadLog == null) {
+            logger.info("Write-ahead log disabled, live ticks are kept in memory only");
+            return;
+        }
+
+        try {
+            replayAndStart();
+        } catch (Exception e) {
+            recoveryFailure = e;
+            logger.error("Write-ahead log recovery failed, live ticks are rejected until the service is restarted", e);
+        }
+    }
+
+    private void replayAndStart() throws Exception {
+        Optional<Path> compacted = writeAheadLog.compactedFile();
+        if (compacted.isPresent()) {
+            logger.info("Reading compacted ticks: {}", compacted.get());
+            csvReaderService.processCsvFile(new FileSystemResource(compacted.get()));
+        }
+
+        List<TradingRecord> replayed = new ArrayList<>();
+        int count = writeAheadLog.recover(line -> replayed.add(toTradingRecord(line)));
+        csvReaderService.addRecords(replayed);
+        logger.info("Replayed {} ticks from the write-ahead log", count);
+
+        writeAheadLog.start(lines -> csvReaderService.addRecords(lines.stream()
+                .map(TickIngestService::toTradingRecord)
+                .toList()));
+    }
+
+    /**
+     * Ingests a single tick. Returns once the tick is durable (if the write-ahead
+     * log is enabled) and visible to the statistics queries.
+     *
+     * @param tick the tick to ingest
+     * @throws IllegalArgumentException if the tick is incomplete or its symbol is not supported
+     * @throws IllegalStateException if the write-ahead log is not running or fails to persist the tick;
+     *                               see {@link WriteAheadLog#append(String)} for when such a tick can still be replayed
+     */
+    public void ingest(TickDTO tick) {
+        String line = toCsvLine(tick);
+
+        if (writeAheadLog == null) {
+            csvReaderService.addRecords(List.of(toTradingRecord(line)));
+            return;
+        }
+
+        if (recoveryFailure != null) {
+            throw new IllegalStateException("Write-ahead log recovery failed at startup", recoveryFailure);
+        }
+
+        try {
+            writeAheadLog.append(line).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to persist tick: " + line, e.getCause());
+        }
+    }
+
+    /**
+     * Periodically folds the sealed write-ahead log segments into the compacted CSV file.
+     */
+    @Scheduled(fixedDelayString = "${wal.compaction-interval-ms:60000}")
+    public void compact() {
+        if (writeAheadLog == null) {
+            return;
+        }
+
+        try {
+            int folded = writeAheadLog.compact(CSV_HEADER);
+            if (folded > 0) {
+                logger.info("Compacted {} write-ahead log segments", folded);
+            }
+        } catch (IOException e) {
+            logger.error("Error compacting the write-ahead log", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+    }
+
+    private static String toCsvLine(TickDTO tick) {
+        if (tick == null || tick.getTimestamp() == null || tick.getSymbol() == null || tick.getPrice() == null) {
+            throw new IllegalArgumentException("Tick requires timestamp, symbol and price");
+        }
+        String symbol = tick.getSymbol().toUpperCase(Locale.ROOT);
+        if (Arrays.stream(SupportedCryptos.values()).noneMatch(coin -> coin.name().equals(symbol))) {
+            throw new IllegalArgumentException("Unsupported symbol: " + tick.getSymbol());
+        }
+        if (tick.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Price must be positive: " + tick.getPrice());
+        }
+
+        return tick.getTimestamp() + "," + symbol + "," + tick.getPrice().toPlainString();
+    }
+
+    private static TradingRecord toTradingRecord(String line) {
+        return createTradingRecord(line.split(","));
+    }
+}
@@ -43,7 +43,7 @@ public class TradingStatisticsService {
      * @return the StatisticsDTO for the given symbol
      */
     public StatisticsDTO calculateStatistics(String symbol) {
-        List<TradingRecord> symbolRecords = filterBySymbol(symbol, this.csvReaderService.records);
+        List<TradingRecord> symbolRecords = this.csvReaderService.readRecords(records -> filterBySymbol(symbol, records));
 
         if (symbolRecords.isEmpty()) {
             logger.warn("No records found for symbol: {}", symbol);
@@ -60,9 +60,9 @@ public class TradingStatisticsService {
      * @return an Optional containing the CryptoNormalizedRangeDTO
      */
     public Optional<CryptoNormalizedRangeDTO> getCryptoWithHighestNormalizedRange(LocalDate date) {
-        Map<String, List<TradingRecord>> groupedByCrypto = this.csvReaderService.records.stream()
+        Map<String, List<TradingRecord>> groupedByCrypto = this.csvReaderService.readRecords(records -> records.stream()
                 .filter(record -> record.getTimestamp().equals(date))
-                .collect(Collectors.groupingBy(TradingRecord::getSymbol));
+                .collect(Collectors.groupingBy(TradingRecord::getSymbol)));
 
         return groupedByCrypto.entrySet().stream()
                 .map(entry -> buildCryptoNormalizedRangeDTO(entry.getKey(), entry.getValue()))
@@ -79,9 +79,9 @@ public class TradingStatisticsService {
     public List<CryptoNormalizedRangeDTO> getNormalizedRangeDesc() {
         return Arrays.stream(SupportedCryptos.values())
                 .map(coin -> {
-                    List<TradingRecord> coinRecords = this.csvReaderService.records.stream()
+                    List<TradingRecord> coinRecords = this.csvReaderService.readRecords(records -> records.stream()
                             .filter(record -> record.getSymbol().equals(coin.name()))
-                            .collect(Collectors.toList());
+                            .collect(Collectors.toList()));
                     return buildCryptoNormalizedRangeDTO(coin.name(), coinRecords);
                 })
                 .sorted(Comparator.comparing(CryptoNormalizedRangeDTO::getNormalizedRange).reversed())
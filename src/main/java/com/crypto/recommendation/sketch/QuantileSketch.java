@@ -0,0 +1,330 @@
+package com.crypto.recommendation.sketch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <h1>QuantileSketch</h1>
+ *
+ * Mergeable quantile sketch following the KLL construction: values enter level 0,
+ * and a full level is sorted and halved into the next level by keeping every other
+ * element (random offset), so an item on level {@code h} stands for {@code 2^h} inputs.
+ * The offsets come from a {@link Random} with a fixed seed unless one is passed in, so
+ * the same inputs in the same order give the same estimates after every restart.
+ * Level capacities shrink geometrically by 2/3 from the top level down, which bounds
+ * memory to about {@code 3k} values regardless of the number of inputs.
+ * <p>
+ * Error bound: for {@code k = 200} the normalized rank error of quantile and rank
+ * estimates is about 1.65% (99% confidence), shrinking roughly as {@code 1/k}.
+ * Min, max and count are exact. Sketches with the same {@code k} merge without extra error
+ * beyond that bound. To answer several queries, take one {@link #sortedView()} and reuse it.
+ * Instances are not thread-safe.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+    public static final long DEFAULT_SEED = 0x5DEECE66DL;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final int k;
+    private final Random random;
+    private double[][] levels = new double[0][];
+    private int[] sizes = new int[0];
+    private int[] capacities = new int[0];
+    private int totalCapacity;
+    private int retained;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k the accuracy parameter; larger values lower the error and raise memory
+     */
+    public QuantileSketch(int k) {
+        this(k, new Random(DEFAULT_SEED));
+    }
+
+    /**
+     * @param k the accuracy parameter; larger values lower the error and raise memory
+     * @param random the source of the compaction offsets
+     */
+    public QuantileSketch(int k, Random random) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.random = random;
+        addLevel();
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value to add
+     */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be added to a quantile sketch");
+        }
+
+        min = count == 0 ? value : Math.min(min, value);
+        max = count == 0 ? value : Math.max(max, value);
+        count++;
+        push(0, value);
+        if (sizes[0] >= capacities[0]) {
+            compress();
+        }
+    }
+
+    /**
+     * Folds another sketch into this one; the other sketch is left untouched.
+     *
+     * @param other the sketch to merge, built with the same {@code k}
+     */
+    public void merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with different k: " + k + " and " + other.k);
+        }
+        if (other.count == 0) {
+            return;
+        }
+
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        while (levels.length < other.levels.length) {
+            addLevel();
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            ensureRoom(level, other.sizes[level]);
+            System.arraycopy(other.levels[level], 0, levels[level], sizes[level], other.sizes[level]);
+            sizes[level] += other.sizes[level];
+            retained += other.sizes[level];
+        }
+        compress();
+    }
+
+    /**
+     * Estimates the value at the given quantile. Sorts the retained values on every call;
+     * use {@link #sortedView()} to answer several queries.
+     *
+     * @param fraction the quantile, between 0 and 1
+     * @return the estimated value, or NaN if the sketch is empty
+     */
+    public double quantile(double fraction) {
+        return sortedView().quantile(fraction);
+    }
+
+    /**
+     * Estimates how many of the added values are less than or equal to the given value.
+     *
+     * @param value the value to rank
+     * @return the estimated number of values not above {@code value}
+     */
+    public long rank(double value) {
+        return sortedView().rank(value);
+    }
+
+    /**
+     * Sorts the retained values once, with their weights, for repeated quantile and rank queries.
+     * The view is a snapshot and does not follow later updates.
+     *
+     * @return a {@link SortedView} of this sketch
+     */
+    public SortedView sortedView() {
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] == 0) {
+                continue;
+            }
+            double[] sortedLevel = Arrays.copyOf(levels[level], sizes[level]);
+            Arrays.sort(sortedLevel);
+
+            double[] mergedValues = new double[values.length + sortedLevel.length];
+            long[] mergedWeights = new long[mergedValues.length];
+            int i = 0;
+            int j = 0;
+            for (int out = 0; out < mergedValues.length; out++) {
+                if (j == sortedLevel.length || (i < values.length && values[i] <= sortedLevel[j])) {
+                    mergedValues[out] = values[i];
+                    mergedWeights[out] = weights[i++];
+                } else {
+                    mergedValues[out] = sortedLevel[j++];
+                    mergedWeights[out] = 1L << level;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+        }
+
+        for (int i = 1; i < weights.length; i++) {
+            weights[i] += weights[i - 1]; // cumulative weight up to and including value i
+        }
+        return new SortedView(values, weights, count, min, max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the number of values currently retained, which stays within about {@code 3k}
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    private void push(int level, double value) {
+        if (level == levels.length) {
+            addLevel();
+        }
+        ensureRoom(level, 1);
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    private void ensureRoom(int level, int extra) {
+        int needed = sizes[level] + extra;
+        if (needed > levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(needed, levels[level].length * 2));
+        }
+    }
+
+    private void compress() {
+        while (retained > totalCapacity) {
+            for (int level = 0; level < levels.length; level++) {
+                if (sizes[level] >= capacities[level]) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    // Sorts the level and promotes every other element; with an odd size the smallest stays behind.
+    private void compact(int level) {
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+
+        int leftover = size % 2;
+        int offset = random.nextInt(2);
+        for (int i = leftover + offset; i < size; i += 2) {
+            push(level + 1, values[i]);
+        }
+        sizes[level] = leftover;
+        retained -= size - leftover;
+    }
+
+    // Capacities only change when a level is added, so they are computed here rather than per insert.
+    private void addLevel() {
+        int levelCount = levels.length + 1;
+        levels = Arrays.copyOf(levels, levelCount);
+        levels[levelCount - 1] = new double[MIN_LEVEL_CAPACITY];
+        sizes = Arrays.copyOf(sizes, levelCount);
+        capacities = new int[levelCount];
+        totalCapacity = 0;
+        for (int level = 0; level < levelCount; level++) {
+            int depth = levelCount - 1 - level;
+            capacities[level] = Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+            totalCapacity += capacities[level];
+        }
+    }
+
+    /**
+     * Sorted snapshot of a sketch, answering quantile and rank queries by binary search.
+     */
+    public static final class SortedView {
+        private final double[] values;
+        private final long[] cumulativeWeights;
+        private final long count;
+        private final double min;
+        private final double max;
+
+        private SortedView(double[] values, long[] cumulativeWeights, long count, double min, double max) {
+            this.values = values;
+            this.cumulativeWeights = cumulativeWeights;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Estimates the value at the given quantile.
+         *
+         * @param fraction the quantile, between 0 and 1
+         * @return the estimated value, or NaN if the sketch is empty
+         */
+        public double quantile(double fraction) {
+            if (!(fraction >= 0 && fraction <= 1)) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1: " + fraction);
+            }
+            if (count == 0) {
+                return Double.NaN;
+            }
+            if (fraction == 0) {
+                return min;
+            }
+            if (fraction == 1) {
+                return max;
+            }
+
+            double target = fraction * count;
+            int low = 0;
+            int high = values.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulativeWeights[middle] >= target) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return values[low];
+        }
+
+        /**
+         * Estimates how many of the added values are less than or equal to the given value.
+         *
+         * @param value the value to rank
+         * @return the estimated number of values not above {@code value}
+         */
+        public long rank(double value) {
+            if (count == 0 || value < min) {
+                return 0;
+            }
+            if (value >= max) {
+                return count;
+            }
+
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low == 0 ? 0 : Math.min(cumulativeWeights[low - 1], count);
+        }
+    }
+}
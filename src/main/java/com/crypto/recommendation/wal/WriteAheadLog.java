@@ -0,0 +1,564 @@
+package com.crypto.recommendation.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * <h1>WriteAheadLog</h1>
+ *
+ * Append-only, segment-rolled log of text entries (one CSV line per tick).
+ * Appends are queued and written by a single writer thread, which flushes each
+ * drained batch with one {@code fsync} (group commit) and moves on to the next batch.
+ * A separate applier thread hands everything committed since its last run to the
+ * commit listener in one call and then completes the callers' futures, so a slow
+ * listener delays acknowledgements but never the disk writes.
+ * <p>
+ * Each entry is stored as {@code [length][crc32][utf-8 bytes]}, and every batch ends with a
+ * {@code [-1][batch length][crc32 of the batch]} marker written under the same {@code fsync},
+ * so a batch only counts as committed once its marker and all of its bytes are on disk.
+ * On recovery anything after the last complete batch is a torn tail and is truncated, even
+ * if it contains valid entries (a crash before {@code fsync} can persist pages out of order);
+ * a damaged batch followed by a complete one fails recovery rather than dropping
+ * acknowledged entries.
+ * <p>
+ * Compaction folds sealed segments into a single CSV file named after the last segment
+ * it covers, so a crash at any point never loses or duplicates entries.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+public class WriteAheadLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{10})\\.wal");
+    private static final Pattern COMPACTED_NAME = Pattern.compile("compacted-(\\d{10})\\.csv");
+    private static final Pattern COMPACTION_TEMP_NAME = Pattern.compile("compacted-\\d{10}\\.csv\\.tmp");
+    private static final int ENTRY_HEADER_BYTES = 8;
+    private static final int BATCH_MARKER = -1;
+    private static final int BATCH_MARKER_BYTES = 12;
+    private static final int MAX_ENTRY_BYTES = 1 << 20;
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingEntry> queue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<PendingEntry> committed = new LinkedBlockingQueue<>();
+    private final Object compactionLock = new Object();
+
+    private Consumer<List<String>> commitListener;
+    private FileChannel activeChannel;
+    private volatile long activeSegmentId;
+    private volatile boolean running;
+    private volatile boolean halted;
+    private volatile boolean writerStopped;
+    private Thread writerThread;
+    private Thread applierThread;
+
+    /**
+     * @param directory the directory holding the segments and the compacted file
+     * @param segmentSizeBytes the size after which the active segment is sealed and a new one is opened
+     * @param maxBatchSize the maximum number of entries written under a single {@code fsync}
+     */
+    public WriteAheadLog(Path directory, long segmentSizeBytes, int maxBatchSize) {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Returns the latest compacted CSV file, removing any older compacted file it supersedes.
+     *
+     * @return the compacted file, or an empty Optional if nothing has been compacted yet
+     * @throws IOException if the directory cannot be read
+     */
+    public Optional<Path> compactedFile() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> compacted = listFiles(COMPACTED_NAME);
+        if (compacted.isEmpty()) {
+            return Optional.empty();
+        }
+
+        for (int i = 0; i < compacted.size() - 1; i++) {
+            Files.deleteIfExists(compacted.get(i));
+        }
+        return Optional.of(compacted.get(compacted.size() - 1));
+    }
+
+    /**
+     * Replays every entry of the segments not yet folded into the compacted file, and removes
+     * the temporary file of a compaction interrupted by a crash.
+     * Must be called before {@link #start(Consumer)}.
+     *
+     * @param consumer receives each recovered entry, in append order
+     * @return the number of recovered entries
+     * @throws IOException if a segment cannot be read or truncated
+     */
+    public int recover(Consumer<String> consumer) throws IOException {
+        long compactedUpTo = compactedFile().map(path -> idOf(path, COMPACTED_NAME)).orElse(0L);
+        for (Path temp : listFiles(COMPACTION_TEMP_NAME)) {
+            logger.warn("Removing unfinished compaction output {}", temp);
+            Files.delete(temp);
+        }
+        int recovered = 0;
+
+        for (Path segment : listFiles(SEGMENT_NAME)) {
+            if (idOf(segment, SEGMENT_NAME) <= compactedUpTo) {
+                Files.deleteIfExists(segment); // already folded, the crash happened before its removal
+                continue;
+            }
+            recovered += replaySegment(segment, consumer);
+            activeSegmentId = Math.max(activeSegmentId, idOf(segment, SEGMENT_NAME));
+        }
+        activeSegmentId = Math.max(activeSegmentId, compactedUpTo);
+        return recovered;
+    }
+
+    /**
+     * Opens a fresh segment and starts the group-commit writer and applier threads.
+     *
+     * @param commitListener receives committed entries once they are durable on disk, in append
+     *                       order, on the applier thread; one call may cover several batches
+     * @throws IOException if the new segment cannot be created
+     */
+    public synchronized void start(Consumer<List<String>> commitListener) throws IOException {
+        this.commitListener = commitListener;
+        rollSegment();
+        running = true;
+        writerThread = new Thread(this::writeLoop, "wal-writer");
+        writerThread.setDaemon(true);
+        applierThread = new Thread(this::applyLoop, "wal-applier");
+        applierThread.setDaemon(true);
+        writerThread.start();
+        applierThread.start();
+    }
+
+    /**
+     * Queues an entry for the next group commit.
+     *
+     * @param entry the entry to append, without line terminators
+     * @return a future completed once the entry is durable and applied by the commit listener.
+     *         If it fails, the entry's batch is truncated from the log again; only when that
+     *         truncation fails too can the entry still be replayed on restart, which is logged
+     */
+    public CompletableFuture<Void> append(String entry) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log is not running"));
+        }
+
+        byte[] payload = entry.getBytes(StandardCharsets.UTF_8);
+        if (payload.length == 0 || payload.length > MAX_ENTRY_BYTES) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Entry must be between 1 and " + MAX_ENTRY_BYTES + " bytes"));
+        }
+
+        PendingEntry pending = new PendingEntry(payload, new CompletableFuture<>());
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("Write-ahead log is not running"));
+        }
+        return pending.future;
+    }
+
+    /**
+     * Folds the compacted file and all sealed segments into a new compacted CSV file,
+     * then removes the inputs. The new file only becomes visible through an atomic rename.
+     * Does nothing until {@link #start(Consumer)} has run, so it never races recovery.
+     *
+     * @param header the CSV header line written at the top of the compacted file
+     * @return the number of segments folded
+     * @throws IOException if the compacted file cannot be written
+     */
+    public int compact(String header) throws IOException {
+        synchronized (compactionLock) {
+            if (!running) {
+                return 0; // not recovered and started yet, or already stopped
+            }
+
+            // The newest segment is the active one: a roll creates the next file before it
+            // publishes the new id, so the listing is never behind the writer.
+            List<Path> segments = listFiles(SEGMENT_NAME);
+            if (segments.size() < 2) {
+                return 0;
+            }
+            List<Path> sealed = segments.subList(0, segments.size() - 1);
+
+            Optional<Path> previous = compactedFile();
+            long lastId = idOf(sealed.get(sealed.size() - 1), SEGMENT_NAME);
+            Path target = directory.resolve(String.format("compacted-%010d.csv", lastId));
+            Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(header);
+                writer.newLine();
+                if (previous.isPresent()) {
+                    copyCompactedLines(previous.get(), writer);
+                }
+                for (Path segment : sealed) {
+                    replaySegment(segment, line -> writeLine(writer, line));
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(); // the rename must be durable before its inputs are removed
+
+            if (previous.isPresent()) {
+                Files.deleteIfExists(previous.get());
+            }
+            for (Path segment : sealed) {
+                Files.deleteIfExists(segment);
+            }
+            return sealed.size();
+        }
+    }
+
+    /**
+     * Stops the writer and applier threads after the queued entries are committed and applied,
+     * and closes the active segment.
+     *
+     * @throws IOException if the active segment cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join();
+            applierThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+
+        failQueued("Write-ahead log is closed");
+        activeChannel.close();
+    }
+
+    // The writer polls instead of blocking on take(): interrupting a thread inside
+    // FileChannel I/O would close the channel under it.
+    private void writeLoop() {
+        try {
+            List<PendingEntry> batch = new ArrayList<>(maxBatchSize);
+            while (!halted && (running || !queue.isEmpty())) {
+                PendingEntry first;
+                try {
+                    first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+                batch.clear();
+            }
+
+            if (halted) {
+                failQueued("Write-ahead log stopped after a failed segment roll");
+            }
+        } finally {
+            writerStopped = true;
+        }
+    }
+
+    // Applies whatever has been committed since the last pass in a single listener call, so
+    // a listener that has to wait (e.g. for a lock held by queries) catches up in one step.
+    private void applyLoop() {
+        List<PendingEntry> entries = new ArrayList<>();
+        while (!writerStopped || !committed.isEmpty()) {
+            PendingEntry first;
+            try {
+                first = committed.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+
+            entries.add(first);
+            committed.drainTo(entries);
+            apply(entries);
+            entries.clear();
+        }
+    }
+
+    private void apply(List<PendingEntry> entries) {
+        try {
+            List<String> lines = new ArrayList<>(entries.size());
+            for (PendingEntry pending : entries) {
+                lines.add(new String(pending.payload, StandardCharsets.UTF_8));
+            }
+            commitListener.accept(lines);
+            entries.forEach(pending -> pending.future.complete(null));
+        } catch (RuntimeException e) {
+            entries.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    private void commit(List<PendingEntry> batch) {
+        long batchStart = -1;
+        try {
+            batchStart = activeChannel.position();
+            write(batch);
+        } catch (IOException e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            discardBatch(batchStart);
+            abandonSegment();
+            return;
+        }
+
+        committed.addAll(batch);
+
+        // The batch is durable at this point; a failed roll must not fail it.
+        try {
+            if (activeChannel.size() >= segmentSizeBytes) {
+                rollSegment();
+            }
+        } catch (IOException e) {
+            halt(e);
+        }
+    }
+
+    private void write(List<PendingEntry> batch) throws IOException {
+        int size = 0;
+        for (PendingEntry pending : batch) {
+            size += ENTRY_HEADER_BYTES + pending.payload.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size + BATCH_MARKER_BYTES);
+        for (PendingEntry pending : batch) {
+            CRC32 crc = new CRC32();
+            crc.update(pending.payload);
+            buffer.putInt(pending.payload.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(pending.payload);
+        }
+        CRC32 batchCrc = new CRC32();
+        batchCrc.update(buffer.array(), 0, size);
+        buffer.putInt(BATCH_MARKER);
+        buffer.putInt(size);
+        buffer.putInt((int) batchCrc.getValue());
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            activeChannel.write(buffer);
+        }
+        activeChannel.force(false);
+    }
+
+    // A failed fsync does not mean the bytes missed the disk: a complete batch left in the segment
+    // would be replayed although its callers were told it failed, so it is cut off again.
+    private void discardBatch(long batchStart) {
+        if (batchStart < 0) {
+            return;
+        }
+        try {
+            activeChannel.truncate(batchStart);
+            activeChannel.force(false);
+        } catch (IOException e) {
+            logger.warn("Could not remove a failed batch from segment {}, its entries may be replayed on restart",
+                    activeSegmentId, e);
+        }
+    }
+
+    // A failed batch may leave a partial write behind; continuing in a new segment keeps it
+    // as that segment's tail, where recovery detects and truncates it.
+    private void abandonSegment() {
+        try {
+            rollSegment();
+        } catch (IOException e) {
+            halt(e);
+        }
+    }
+
+    // Stops accepting entries when no segment can be opened; the writer fails what is still queued.
+    private void halt(IOException cause) {
+        logger.error("Write-ahead log stopped, no segment could be opened in {}", directory, cause);
+        halted = true;
+        running = false;
+    }
+
+    private void failQueued(String reason) {
+        PendingEntry pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException(reason));
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+        long nextId = activeSegmentId + 1;
+        activeChannel = FileChannel.open(directory.resolve(String.format("segment-%010d.wal", nextId)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        syncDirectory(); // entries fsynced into the segment are lost on power failure if its directory entry is
+        activeSegmentId = nextId;
+    }
+
+    // Windows cannot open a directory as a FileChannel; NTFS journals the metadata change instead.
+    private void syncDirectory() throws IOException {
+        if (WINDOWS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // Replays the complete batches at the start of a segment. Whatever follows the last complete
+    // batch is only truncated when no complete batch comes after it; otherwise acknowledged
+    // entries lie behind the damage and recovery fails instead of deleting them.
+    private int replaySegment(Path segment, Consumer<String> consumer) throws IOException {
+        byte[] data = Files.readAllBytes(segment);
+        List<String> batch = new ArrayList<>();
+        int replayed = 0;
+        int committedEnd = 0;
+        int position = 0;
+
+        while (position < data.length) {
+            int length = entryLength(data, position);
+            if (length > 0) {
+                batch.add(new String(data, position + ENTRY_HEADER_BYTES, length, StandardCharsets.UTF_8));
+                position += ENTRY_HEADER_BYTES + length;
+            } else if (!batch.isEmpty() && batchStart(data, position) == committedEnd) {
+                batch.forEach(consumer);
+                replayed += batch.size();
+                batch.clear();
+                position += BATCH_MARKER_BYTES;
+                committedEnd = position;
+            } else {
+                break;
+            }
+        }
+
+        if (committedEnd < data.length) {
+            for (int next = committedEnd + 1; next < data.length; next++) {
+                if (batchStart(data, next) >= committedEnd) {
+                    throw new IOException(String.format(
+                            "Corrupted batch in %s at byte %d, a complete batch follows at byte %d",
+                            segment, committedEnd, batchStart(data, next)));
+                }
+            }
+
+            logger.warn("Truncating torn tail of {} at byte {} ({} bytes dropped)",
+                    segment, committedEnd, data.length - committedEnd);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(committedEnd);
+                channel.force(true);
+            }
+        }
+        return replayed;
+    }
+
+    // Returns the payload length of a complete entry with a matching checksum at the given offset, or -1.
+    private static int entryLength(byte[] data, int offset) {
+        if (data.length - offset < ENTRY_HEADER_BYTES) {
+            return -1;
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(data, offset, ENTRY_HEADER_BYTES);
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length <= 0 || length > MAX_ENTRY_BYTES || length > data.length - offset - ENTRY_HEADER_BYTES) {
+            return -1;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, offset + ENTRY_HEADER_BYTES, length);
+        return (int) crc.getValue() == checksum ? length : -1;
+    }
+
+    // Returns the start of the batch closed by a valid marker at the given offset, or -1.
+    private static int batchStart(byte[] data, int offset) {
+        if (data.length - offset < BATCH_MARKER_BYTES) {
+            return -1;
+        }
+
+        ByteBuffer marker = ByteBuffer.wrap(data, offset, BATCH_MARKER_BYTES);
+        int batchLength = marker.getInt() == BATCH_MARKER ? marker.getInt() : -1;
+        int checksum = marker.getInt();
+        if (batchLength <= 0 || batchLength > offset) {
+            return -1;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, offset - batchLength, batchLength);
+        return (int) crc.getValue() == checksum ? offset - batchLength : -1;
+    }
+
+    private static void copyCompactedLines(Path compacted, BufferedWriter writer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(compacted, StandardCharsets.UTF_8)) {
+            reader.readLine(); // Skip the header line
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writeLine(writer, line);
+            }
+        }
+    }
+
+    private static void writeLine(BufferedWriter writer, String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> listFiles(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> pattern.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long idOf(Path path, Pattern pattern) {
+        Matcher matcher = pattern.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a write-ahead log file: " + path);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private record PendingEntry(byte[] payload, CompletableFuture<Void> future) {
+    }
+}
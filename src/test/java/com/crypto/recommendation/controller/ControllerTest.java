@@ -0,0 +1,96 @@
+package com.crypto.recommendation.controller;
+
+import com.crypto.recommendation.dto.TickDTO;
+import com.crypto.recommendation.service.CsvReaderService;
+import com.crypto.recommendation.service.PriceDistributionService;
+import com.crypto.recommendation.service.TickIngestService;
+import com.crypto.recommendation.service.TradingStatisticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ControllerTest {
+
+    @TempDir
+    Path directory;
+
+    private TickIngestService tickIngestService;
+
+    @AfterEach
+    void closeLog() throws IOException {
+        if (tickIngestService != null) {
+            tickIngestService.close();
+        }
+    }
+
+    @Test
+    void ingestTickReturnsCreated() {
+        final var controller = controller(directory.resolve("wal"));
+
+        final var result = controller.ingestTick(tick("BTC", "46813.21"));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void ingestTickWithUnsupportedSymbolReturnsBadRequest() {
+        final var controller = controller(directory.resolve("wal"));
+
+        final var result = controller.ingestTick(tick("ADA", "1.2"));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void ingestTickWithNonPositivePriceReturnsBadRequest() {
+        final var controller = controller(directory.resolve("wal"));
+
+        final var result = controller.ingestTick(tick("BTC", "-1"));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void ingestTickAfterFailedRecoveryReturnsServiceUnavailable() throws IOException {
+        final var controller = controller(Files.writeString(directory.resolve("wal"), "not a directory"));
+
+        final var result = controller.ingestTick(tick("BTC", "46813.21"));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void ingestTickWhileLogIsNotRunningReturnsServiceUnavailable() throws IOException {
+        final var controller = controller(directory.resolve("wal"));
+        tickIngestService.close();
+
+        final var result = controller.ingestTick(tick("BTC", "46813.21"));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private Controller controller(Path walDirectory) {
+        final var priceDistributionService = new PriceDistributionService();
+        final var csvReaderService = new CsvReaderService(priceDistributionService);
+        tickIngestService = new TickIngestService(csvReaderService, true, walDirectory.toString(), 1024, 16);
+        tickIngestService.recover();
+        return new Controller(new TradingStatisticsService(csvReaderService), tickIngestService,
+                priceDistributionService);
+    }
+
+    private static TickDTO tick(String symbol, String price) {
+        TickDTO tick = new TickDTO();
+        tick.setTimestamp(1641009600000L);
+        tick.setSymbol(symbol);
+        tick.setPrice(new BigDecimal(price));
+        return tick;
+    }
+}
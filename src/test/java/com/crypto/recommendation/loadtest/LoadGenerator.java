@@ -0,0 +1,182 @@
+package com.crypto.recommendation.loadtest;
+
+import com.crypto.recommendation.enums.SupportedCryptos;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are issued on a fixed schedule regardless of
+ * how fast responses come back, and latency is measured from each request's
+ * intended start time. A stalled server therefore shows up as queueing delay in
+ * the recorded latencies instead of silently lowering the request rate
+ * (coordinated omission). Service time, measured from the actual send, is kept
+ * separately. Every request is accounted for: one that has not completed by the
+ * drain deadline is recorded as an error with its latency at the deadline.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+class LoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Duration DRAIN_GRACE = Duration.ofSeconds(5);
+
+    enum Endpoint {
+        STATISTICS,
+        NORMALIZED_RANGE,
+        NORMALIZED_BY_DATE
+    }
+
+    /**
+     * Latencies and outcome counters of one endpoint, in nanoseconds.
+     */
+    static final class EndpointResult {
+        final Histogram latency = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+        final LongAdder successes = new LongAdder();
+    }
+
+    /**
+     * Results of one run, with the time from the first scheduled request until the
+     * last one was recorded.
+     */
+    record RunResult(Map<Endpoint, EndpointResult> endpoints, Duration elapsed) {
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final URI baseUri;
+    private final LoadTestConfig config;
+    private final List<LocalDate> dates;
+    private final Random random;
+
+    LoadGenerator(URI baseUri, LoadTestConfig config, List<LocalDate> dates) {
+        this.baseUri = baseUri;
+        this.config = config;
+        this.dates = dates;
+        this.random = new Random(config.seed());
+    }
+
+    /**
+     * Drives the configured request mix at the configured rate.
+     *
+     * @param duration how long to issue requests
+     * @return the results per endpoint, complete once this method returns
+     * @throws InterruptedException if interrupted while waiting for outstanding requests
+     */
+    RunResult run(Duration duration) throws InterruptedException {
+        Map<Endpoint, EndpointResult> results = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            results.put(endpoint, new EndpointResult());
+        }
+
+        // Whoever removes a request from inFlight (its callback or the deadline sweep) records it.
+        Map<Long, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+        LongAdder recorded = new LongAdder();
+        long issued = 0;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = nextEndpoint();
+            EndpointResult result = results.get(endpoint);
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(pathFor(endpoint)))
+                    .timeout(config.requestTimeout())
+                    .GET()
+                    .build();
+
+            long id = issued++;
+            long sent = System.nanoTime();
+            inFlight.put(id, new InFlightRequest(result, intendedStart, sent));
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        if (inFlight.remove(id) == null) {
+                            return; // already recorded as unfinished by the deadline sweep
+                        }
+                        result.latency.recordValue(done - intendedStart);
+                        result.serviceTime.recordValue(done - sent);
+                        if (error != null || response.statusCode() / 100 != 2) {
+                            result.errors.increment();
+                        } else {
+                            result.successes.increment();
+                        }
+                        recorded.increment();
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + config.requestTimeout().plus(DRAIN_GRACE).toNanos();
+        while (recorded.sum() < issued && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+
+        long deadline = System.nanoTime();
+        for (Long id : inFlight.keySet()) {
+            InFlightRequest unfinished = inFlight.remove(id);
+            if (unfinished != null) {
+                unfinished.result.latency.recordValue(deadline - unfinished.intendedStart);
+                unfinished.result.serviceTime.recordValue(deadline - unfinished.sent);
+                unfinished.result.errors.increment();
+                recorded.increment();
+            }
+        }
+
+        // Callbacks that claimed their request before the sweep may still be recording it.
+        while (recorded.sum() < issued) {
+            Thread.onSpinWait();
+        }
+        return new RunResult(results, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private record InFlightRequest(EndpointResult result, long intendedStart, long sent) {
+    }
+
+    private Endpoint nextEndpoint() {
+        int pick = random.nextInt(config.totalWeight());
+        if (pick < config.statisticsWeight()) {
+            return Endpoint.STATISTICS;
+        }
+        if (pick < config.statisticsWeight() + config.normalizedRangeWeight()) {
+            return Endpoint.NORMALIZED_RANGE;
+        }
+        return Endpoint.NORMALIZED_BY_DATE;
+    }
+
+    private String pathFor(Endpoint endpoint) {
+        return switch (endpoint) {
+            case STATISTICS -> {
+                SupportedCryptos[] coins = SupportedCryptos.values();
+                yield "/api/" + coins[random.nextInt(coins.length)].name();
+            }
+            case NORMALIZED_RANGE -> "/api/normalized-range";
+            case NORMALIZED_BY_DATE -> "/api/normalized-by-date/" + dates.get(random.nextInt(dates.size()));
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.crypto.recommendation.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties so runs
+ * can be configured from the Maven command line.
+ *
+ * @param label the name of the run, used in the report
+ * @param days the number of days of synthetic data per symbol
+ * @param ticksPerDay the number of synthetic ticks per symbol per day
+ * @param rate the fixed arrival rate in requests per second
+ * @param warmup the warmup phase, whose latencies are discarded
+ * @param duration the measured phase
+ * @param requestTimeout the time after which a request is abandoned and counted as an error
+ * @param statisticsWeight the share of {@code /api/{symbol}} requests
+ * @param normalizedRangeWeight the share of {@code /api/normalized-range} requests
+ * @param normalizedByDateWeight the share of {@code /api/normalized-by-date/{date}} requests
+ * @param jfr whether to record a JFR profile of the measured phase
+ * @param seed the seed for the synthetic data and the request mix
+ * @param outputDirectory the directory the report is written to
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+record LoadTestConfig(String label, int days, int ticksPerDay, int rate, Duration warmup, Duration duration,
+                      Duration requestTimeout,
+                      int statisticsWeight, int normalizedRangeWeight, int normalizedByDateWeight,
+                      boolean jfr, long seed, Path outputDirectory) {
+
+    static LoadTestConfig fromSystemProperties() {
+        String[] mix = System.getProperty("loadtest.mix", "1,1,1").split(",");
+        if (mix.length != 3) {
+            throw new IllegalArgumentException("loadtest.mix needs three weights: statistics,normalized-range,normalized-by-date");
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                System.getProperty("loadtest.label", "default"),
+                Integer.getInteger("loadtest.days", 30),
+                Integer.getInteger("loadtest.ticksPerDay", 24),
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30)),
+                Duration.ofSeconds(Long.getLong("loadtest.requestTimeoutSeconds", 10)),
+                Integer.parseInt(mix[0].trim()),
+                Integer.parseInt(mix[1].trim()),
+                Integer.parseInt(mix[2].trim()),
+                Boolean.getBoolean("loadtest.jfr"),
+                Long.getLong("loadtest.seed", 42),
+                Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+
+        if (config.days() < 1 || config.ticksPerDay() < 1) {
+            throw new IllegalArgumentException("loadtest.days and loadtest.ticksPerDay must be at least 1: "
+                    + config.days() + ", " + config.ticksPerDay());
+        }
+        if (config.rate() <= 0) {
+            throw new IllegalArgumentException("loadtest.rate must be positive: " + config.rate());
+        }
+        if (config.duration().isZero() || config.requestTimeout().isZero() || config.warmup().isNegative()
+                || config.duration().isNegative() || config.requestTimeout().isNegative()) {
+            throw new IllegalArgumentException("loadtest.durationSeconds and loadtest.requestTimeoutSeconds must be "
+                    + "positive and loadtest.warmupSeconds not negative");
+        }
+        if (config.statisticsWeight() < 0 || config.normalizedRangeWeight() < 0 || config.normalizedByDateWeight() < 0
+                || config.totalWeight() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix weights must not be negative and must sum to more than 0: "
+                    + String.join(",", mix));
+        }
+        return config;
+    }
+
+    int totalWeight() {
+        return statisticsWeight + normalizedRangeWeight + normalizedByDateWeight;
+    }
+}
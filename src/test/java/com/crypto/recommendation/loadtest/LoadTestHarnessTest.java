@@ -0,0 +1,75 @@
+package com.crypto.recommendation.loadtest;
+
+import com.crypto.recommendation.CryptoRecommenderApplication;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on a synthetic dataset and drives the REST API at a fixed
+ * arrival rate. Tagged {@code loadtest}, so it only runs with the {@code loadtest}
+ * Maven profile, e.g. {@code ./mvnw test -Ploadtest -Dloadtest.rate=500 -Dloadtest.jfr=true}.
+ * See {@link LoadTestConfig} for the available settings and {@link LoadTestReport}
+ * for the output. The generator shares the JVM with the application, so a JFR
+ * profile also contains its dispatcher and HttpClient threads.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+@Tag("loadtest")
+class LoadTestHarnessTest {
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void runLoadTest() throws Exception {
+        final var config = LoadTestConfig.fromSystemProperties();
+        final var dataset = SyntheticDataset.generate(workDirectory.resolve("data"),
+                config.days(), config.ticksPerDay(), config.seed());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CryptoRecommenderApplication.class)
+                .properties(
+                        "server.port=0",
+                        "csv.directory=file:" + dataset.directory().toAbsolutePath(),
+                        "wal.enabled=false",
+                        "logging.level.com.crypto.recommendation=WARN")
+                .run()) {
+            final var port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            final var generator = new LoadGenerator(URI.create("http://localhost:" + port), config, dataset.dates());
+
+            generator.run(config.warmup());
+
+            LoadGenerator.RunResult results;
+            if (config.jfr()) {
+                Files.createDirectories(config.outputDirectory().resolve(config.label()));
+                try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+                    recording.setDestination(config.outputDirectory().resolve(config.label()).resolve("profile.jfr"));
+                    recording.start();
+                    results = generator.run(config.duration());
+                    recording.stop();
+                }
+            } else {
+                results = generator.run(config.duration());
+            }
+
+            final var report = LoadTestReport.write(config, dataset, results);
+            System.out.println(Files.readString(report));
+
+            assertThat(results.endpoints().values())
+                    .allSatisfy(result -> assertThat(result.errors.sum()).isZero());
+        }
+    }
+}
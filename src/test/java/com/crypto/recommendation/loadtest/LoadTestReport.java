@@ -0,0 +1,106 @@
+package com.crypto.recommendation.loadtest;
+
+import com.crypto.recommendation.loadtest.LoadGenerator.Endpoint;
+import com.crypto.recommendation.loadtest.LoadGenerator.EndpointResult;
+import com.crypto.recommendation.loadtest.LoadGenerator.RunResult;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the results of a load test run:
+ * <ul>
+ *     <li>{@code <label>/report.txt} with the run settings and a latency table per endpoint</li>
+ *     <li>{@code <label>/<endpoint>.hgrm} percentile distributions, loadable in the HdrHistogram plotter</li>
+ *     <li>one row per endpoint appended to {@code summary.csv}, to compare runs over time</li>
+ * </ul>
+ * All latencies are reported in milliseconds. Throughput counts successful requests
+ * over the actual elapsed time of the run, including draining outstanding requests.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final String SUMMARY_HEADER = "timestamp,label,records,rate,durationSeconds,elapsedSeconds,endpoint,requests,errors,"
+            + "throughput,p50,p90,p99,p999,max,serviceP50,serviceP99";
+
+    private LoadTestReport() {
+    }
+
+    static Path write(LoadTestConfig config, SyntheticDataset dataset, RunResult run) throws IOException {
+        Path runDirectory = config.outputDirectory().resolve(config.label());
+        Files.createDirectories(runDirectory);
+        String timestamp = Instant.now().toString();
+        Map<Endpoint, EndpointResult> results = run.endpoints();
+        double seconds = run.elapsed().toNanos() / 1e9;
+
+        Path report = runDirectory.resolve("report.txt");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report), false, StandardCharsets.UTF_8)) {
+            out.printf(Locale.ROOT, "Load test '%s' at %s%n", config.label(), timestamp);
+            out.printf(Locale.ROOT, "Dataset: %d records, %d days x %d ticks/day per symbol%n",
+                    dataset.recordCount(), config.days(), config.ticksPerDay());
+            out.printf(Locale.ROOT, "Arrival rate: %d req/s, warmup %ds, measured %ds, mix %d/%d/%d, jfr %s%n",
+                    config.rate(), config.warmup().toSeconds(), config.duration().toSeconds(),
+                    config.statisticsWeight(), config.normalizedRangeWeight(), config.normalizedByDateWeight(),
+                    config.jfr());
+            out.printf(Locale.ROOT, "Elapsed: %.3fs including draining outstanding requests%n%n", seconds);
+            out.printf(Locale.ROOT, "%-20s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "ok req/s", "p50", "p90", "p99", "p99.9", "max");
+            for (Map.Entry<Endpoint, EndpointResult> entry : results.entrySet()) {
+                Histogram latency = entry.getValue().latency;
+                out.printf(Locale.ROOT, "%-20s %9d %7d %9.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                        entry.getKey(), latency.getTotalCount(), entry.getValue().errors.sum(),
+                        entry.getValue().successes.sum() / seconds,
+                        millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                        latency.getMaxValue() / NANOS_PER_MILLI);
+            }
+        }
+
+        for (Map.Entry<Endpoint, EndpointResult> entry : results.entrySet()) {
+            Path distribution = runDirectory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(distribution), false, StandardCharsets.UTF_8)) {
+                entry.getValue().latency.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+
+        appendSummary(config, dataset, results, timestamp, seconds);
+        return report;
+    }
+
+    private static void appendSummary(LoadTestConfig config, SyntheticDataset dataset,
+                                      Map<Endpoint, EndpointResult> results, String timestamp, double seconds)
+            throws IOException {
+        Path summary = config.outputDirectory().resolve("summary.csv");
+        StringBuilder rows = new StringBuilder();
+        if (Files.notExists(summary)) {
+            rows.append(SUMMARY_HEADER).append(System.lineSeparator());
+        }
+
+        for (Map.Entry<Endpoint, EndpointResult> entry : results.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            Histogram serviceTime = entry.getValue().serviceTime;
+            rows.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.3f,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    timestamp, config.label(), dataset.recordCount(), config.rate(), config.duration().toSeconds(), seconds,
+                    entry.getKey(), latency.getTotalCount(), entry.getValue().errors.sum(),
+                    entry.getValue().successes.sum() / seconds,
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / NANOS_PER_MILLI,
+                    millis(serviceTime, 50), millis(serviceTime, 99)));
+        }
+        Files.writeString(summary, rows, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
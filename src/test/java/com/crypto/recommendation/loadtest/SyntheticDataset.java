@@ -0,0 +1,66 @@
+package com.crypto.recommendation.loadtest;
+
+import com.crypto.recommendation.enums.SupportedCryptos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static com.crypto.recommendation.util.DateUtil.convertToLocalDate;
+
+/**
+ * Writes one CSV file per supported symbol with a random-walk price series,
+ * in the same format as the bundled data files.
+ *
+ * @param directory the directory holding the generated CSV files
+ * @param dates the days covered by the generated ticks
+ * @param recordCount the total number of generated ticks
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+record SyntheticDataset(Path directory, List<LocalDate> dates, long recordCount) {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    static SyntheticDataset generate(Path directory, int days, int ticksPerDay, long seed) throws IOException {
+        Files.createDirectories(directory);
+        Random random = new Random(seed);
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        long startMillis = START.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long stepMillis = DAY_MILLIS / ticksPerDay;
+        long recordCount = 0;
+
+        for (SupportedCryptos coin : SupportedCryptos.values()) {
+            double price = 1 + random.nextDouble() * 1000;
+            Path file = directory.resolve(coin.name() + "_values.csv");
+
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("timestamp,symbol,price");
+                writer.newLine();
+                for (long tick = 0; tick < (long) days * ticksPerDay; tick++) {
+                    long timestamp = startMillis + tick * stepMillis;
+                    price = Math.max(0.0001, price * (1 + random.nextGaussian() * 0.01));
+
+                    writer.write(timestamp + "," + coin.name() + ","
+                            + BigDecimal.valueOf(price).setScale(4, RoundingMode.HALF_UP).toPlainString());
+                    writer.newLine();
+                    dates.add(convertToLocalDate(String.valueOf(timestamp)));
+                    recordCount++;
+                }
+            }
+        }
+        return new SyntheticDataset(directory, new ArrayList<>(dates), recordCount);
+    }
+}
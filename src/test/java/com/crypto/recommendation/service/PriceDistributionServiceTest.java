@@ -0,0 +1,119 @@
+package com.crypto.recommendation.service;
+
+import com.crypto.recommendation.dto.HistogramBinDTO;
+import com.crypto.recommendation.model.TradingRecord;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceDistributionServiceTest {
+    private static final LocalDate JANUARY_FIRST = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JANUARY_SECOND = LocalDate.of(2025, 1, 2);
+    private static final LocalDate FEBRUARY_FIRST = LocalDate.of(2025, 2, 1);
+
+    private static PriceDistributionService priceDistributionService;
+
+    @BeforeAll
+    public static void init() {
+        List<TradingRecord> tradingRecords = new ArrayList<>();
+        for (int price = 1; price <= 10; price++) {
+            tradingRecords.add(tradingRecord(JANUARY_FIRST, price));
+            tradingRecords.add(tradingRecord(JANUARY_SECOND, price + 10));
+        }
+        tradingRecords.add(tradingRecord(FEBRUARY_FIRST, 100));
+
+        priceDistributionService = new PriceDistributionService();
+        priceDistributionService.record(tradingRecords);
+    }
+
+    @Test
+    void getPriceDistributionForRange() {
+        final var result = priceDistributionService.getPriceDistribution("BTC", JANUARY_FIRST, JANUARY_SECOND,
+                List.of(0.5), 2);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getCount()).isEqualTo(20);
+        assertThat(result.get().getMinPrice()).isEqualByComparingTo("1");
+        assertThat(result.get().getMaxPrice()).isEqualByComparingTo("20");
+        assertThat(result.get().getQuantiles().get(0.5)).isEqualByComparingTo("10");
+        assertThat(result.get().getHistogram())
+                .extracting(HistogramBinDTO::getCount)
+                .containsExactly(10L, 10L);
+        assertThat(result.get().getHistogram().get(0).getUpperBound()).isEqualByComparingTo("10.5");
+    }
+
+    @Test
+    void getPriceDistributionForSingleDay() {
+        final var result = priceDistributionService.getPriceDistribution("BTC", JANUARY_SECOND, JANUARY_SECOND,
+                List.of(0.0, 1.0), 10);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getCount()).isEqualTo(10);
+        assertThat(result.get().getQuantiles().get(0.0)).isEqualByComparingTo("11");
+        assertThat(result.get().getQuantiles().get(1.0)).isEqualByComparingTo("20");
+        assertThat(result.get().getHistogram())
+                .hasSize(10)
+                .extracting(HistogramBinDTO::getCount)
+                .containsOnly(1L);
+    }
+
+    @Test
+    void getPriceDistributionWithoutRangeCoversAllData() {
+        final var result = priceDistributionService.getPriceDistribution("btc", null, null, List.of(0.5), 1);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getFrom()).isEqualTo(JANUARY_FIRST);
+        assertThat(result.get().getTo()).isEqualTo(FEBRUARY_FIRST);
+        assertThat(result.get().getCount()).isEqualTo(21);
+        assertThat(result.get().getMaxPrice()).isEqualByComparingTo("100");
+        assertThat(result.get().getHistogram())
+                .extracting(HistogramBinDTO::getCount)
+                .containsExactly(21L);
+    }
+
+    @Test
+    void getPriceDistributionWithoutData() {
+        final var unknownSymbol = priceDistributionService.getPriceDistribution("XRP", null, null, List.of(0.5), 10);
+        final var emptyRange = priceDistributionService.getPriceDistribution("BTC",
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), List.of(0.5), 10);
+
+        assertThat(unknownSymbol).isEmpty();
+        assertThat(emptyRange).isEmpty();
+    }
+
+    @Test
+    void getPriceDistributionInvalidQuantile_throws_IllegalArgumentException() {
+        assertThatThrownBy(() -> priceDistributionService.getPriceDistribution("BTC", null, null, List.of(Double.NaN), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> priceDistributionService.getPriceDistribution("BTC", null, null, List.of(1.5), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> priceDistributionService.getPriceDistribution("BTC", null, null,
+                Arrays.asList(0.5, null), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getPriceDistributionInvalidRangeOrBins_throws_IllegalArgumentException() {
+        assertThatThrownBy(() -> priceDistributionService.getPriceDistribution("BTC", JANUARY_SECOND, JANUARY_FIRST,
+                List.of(0.5), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> priceDistributionService.getPriceDistribution("BTC", null, null, List.of(0.5), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TradingRecord tradingRecord(LocalDate timestamp, int price) {
+        TradingRecord tradingRecord = new TradingRecord();
+        tradingRecord.setTimestamp(timestamp);
+        tradingRecord.setSymbol("BTC");
+        tradingRecord.setPrice(new BigDecimal(price));
+        return tradingRecord;
+    }
+}
@@ -0,0 +1,137 @@
+package com.crypto.recommendation.service;
+
+import com.crypto.recommendation.dto.TickDTO;
+import com.crypto.recommendation.model.TradingRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.crypto.recommendation.mapper.TradingRecordMapper.createTradingRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TickIngestServiceTest {
+    private static final long TIMESTAMP = 1641009600000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverLoadsCompactedTicksAndReplaysLogOnTopOfCsvRecords() throws IOException {
+        final var wal = directory.resolve("wal");
+        final var first = new TickIngestService(new CsvReaderService(new PriceDistributionService()),
+                true, wal.toString(), 1, 16);
+        first.recover();
+        first.ingest(tick("BTC", "46813.21"));
+        first.ingest(tick("ETH", "3715.32"));
+        first.compact(); // folds the BTC segment at least, sealed once ETH went to the next one
+        first.ingest(tick("XRP", "0.8298"));
+        first.close();
+
+        final var csvReaderService = new CsvReaderService(new PriceDistributionService());
+        csvReaderService.addRecords(List.of(createTradingRecord(new String[]{"1640995200000", "DOGE", "0.1702"})));
+        final var second = new TickIngestService(csvReaderService, true, wal.toString(), 1, 16);
+
+        second.recover();
+        second.close();
+
+        try (var files = Files.list(wal)) {
+            assertThat(files.anyMatch(path -> path.getFileName().toString().startsWith("compacted-"))).isTrue();
+        }
+        assertThat(records(csvReaderService))
+                .extracting(TradingRecord::getSymbol)
+                .containsExactly("DOGE", "BTC", "ETH", "XRP");
+        assertThat(records(csvReaderService))
+                .extracting(TradingRecord::getPrice)
+                .containsExactly(new BigDecimal("0.1702"), new BigDecimal("46813.21"),
+                        new BigDecimal("3715.32"), new BigDecimal("0.8298"));
+    }
+
+    @Test
+    void ingestWithLowercaseSymbolStoresUppercaseSymbol() throws IOException {
+        final var csvReaderService = new CsvReaderService(new PriceDistributionService());
+        final var service = new TickIngestService(csvReaderService, true, directory.toString(), 1024, 16);
+        service.recover();
+
+        service.ingest(tick("btc", "46813.21"));
+        service.close();
+
+        assertThat(records(csvReaderService))
+                .extracting(TradingRecord::getSymbol)
+                .containsExactly("BTC");
+    }
+
+    @Test
+    void ingestUnsupportedSymbol_throws_IllegalArgumentException() {
+        final var service = new TickIngestService(new CsvReaderService(new PriceDistributionService()),
+                false, directory.toString(), 1024, 16);
+
+        assertThatThrownBy(() -> service.ingest(tick("ADA", "1.2")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ADA");
+    }
+
+    @Test
+    void ingestNonPositivePrice_throws_IllegalArgumentException() {
+        final var service = new TickIngestService(new CsvReaderService(new PriceDistributionService()),
+                false, directory.toString(), 1024, 16);
+
+        assertThatThrownBy(() -> service.ingest(tick("BTC", "0")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("positive");
+    }
+
+    @Test
+    void ingestAfterFailedRecovery_throws_IllegalStateException() throws IOException {
+        final var notADirectory = Files.writeString(directory.resolve("wal"), "not a directory");
+        final var service = new TickIngestService(new CsvReaderService(new PriceDistributionService()),
+                true, notADirectory.toString(), 1024, 16);
+        service.recover();
+
+        assertThatThrownBy(() -> service.ingest(tick("BTC", "46813.21")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("recovery failed");
+    }
+
+    @Test
+    void ingestWhileLogIsNotRunning_throws_IllegalStateException() throws IOException {
+        final var service = new TickIngestService(new CsvReaderService(new PriceDistributionService()),
+                true, directory.toString(), 1024, 16);
+        service.recover();
+        service.close();
+
+        assertThatThrownBy(() -> service.ingest(tick("BTC", "46813.21")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void ingestWithLogDisabledKeepsTickInMemory() {
+        final var csvReaderService = new CsvReaderService(new PriceDistributionService());
+        final var service = new TickIngestService(csvReaderService, false, directory.toString(), 1024, 16);
+        service.recover();
+
+        service.ingest(tick("ETH", "3715.32"));
+
+        assertThat(records(csvReaderService))
+                .extracting(TradingRecord::getSymbol)
+                .containsExactly("ETH");
+        assertThat(directory.resolve("segment-0000000001.wal")).doesNotExist();
+    }
+
+    static TickDTO tick(String symbol, String price) {
+        TickDTO tick = new TickDTO();
+        tick.setTimestamp(TIMESTAMP);
+        tick.setSymbol(symbol);
+        tick.setPrice(new BigDecimal(price));
+        return tick;
+    }
+
+    private static List<TradingRecord> records(CsvReaderService csvReaderService) {
+        return csvReaderService.readRecords(List::copyOf);
+    }
+}
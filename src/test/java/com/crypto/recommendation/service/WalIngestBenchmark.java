@@ -0,0 +1,108 @@
+package com.crypto.recommendation.service;
+
+import com.crypto.recommendation.model.TradingRecord;
+import com.crypto.recommendation.wal.WriteAheadLog;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.crypto.recommendation.mapper.TradingRecordMapper.createTradingRecord;
+
+/**
+ * Measures the tick ingest rate into a {@link CsvReaderService} preloaded with a
+ * realistic dataset: in memory only, with a write-ahead log that fsyncs every tick,
+ * and with a group-committing write-ahead log. Each case runs once on its own and
+ * once while other threads keep running the {@code /normalized-range} query, whose
+ * full scans hold the records read lock.
+ * Not a test; run its main method from the test classpath with
+ * {@code [producers] [ticksPerProducer] [preloadedRecords] [queryThreads]}.
+ *
+ * @author lioannidis
+ * @version 0.1
+ */
+public class WalIngestBenchmark {
+    private static final String TICK = "1641009600000,BTC,46813.21";
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int ticksPerProducer = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int preloaded = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        int queryThreads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        for (int queries : new int[]{0, queryThreads}) {
+            System.out.printf("%d query threads%n", queries);
+            CsvReaderService memoryOnly = preloadedService(preloaded);
+            report("in-memory", memoryOnly, queries, producers, ticksPerProducer,
+                    () -> memoryOnly.addRecords(List.of(createTradingRecord(TICK.split(",")))));
+            runWithLog("wal, batch=1", 1, queries, producers, ticksPerProducer, preloaded);
+            runWithLog("wal, batch=1024", 1024, queries, producers, ticksPerProducer, preloaded);
+        }
+    }
+
+    private static CsvReaderService preloadedService(int preloaded) {
+        CsvReaderService service = new CsvReaderService(new PriceDistributionService());
+        List<TradingRecord> records = new ArrayList<>(preloaded);
+        for (int i = 0; i < preloaded; i++) {
+            records.add(createTradingRecord(TICK.split(",")));
+        }
+        service.addRecords(records);
+        return service;
+    }
+
+    private static void runWithLog(String name, int maxBatchSize, int queries, int producers, int ticksPerProducer,
+                                   int preloaded) throws Exception {
+        Path directory = Files.createTempDirectory("wal-benchmark");
+        CsvReaderService service = preloadedService(preloaded);
+
+        try (WriteAheadLog log = new WriteAheadLog(directory, 64L << 20, maxBatchSize)) {
+            log.recover(line -> { });
+            log.start(lines -> service.addRecords(lines.stream()
+                    .map(line -> createTradingRecord(line.split(",")))
+                    .toList()));
+            report(name, service, queries, producers, ticksPerProducer, () -> log.append(TICK).join());
+        }
+    }
+
+    private static void report(String name, CsvReaderService service, int queries, int producers,
+                               int ticksPerProducer, Runnable ingest) throws InterruptedException {
+        TradingStatisticsService statistics = new TradingStatisticsService(service);
+        AtomicBoolean ingesting = new AtomicBoolean(true);
+        LongAdder queriesRun = new LongAdder();
+        Thread[] queryThreads = new Thread[queries];
+        for (int i = 0; i < queries; i++) {
+            queryThreads[i] = new Thread(() -> {
+                while (ingesting.get()) {
+                    statistics.getNormalizedRangeDesc();
+                    queriesRun.increment();
+                }
+            });
+            queryThreads[i].start();
+        }
+
+        Thread[] threads = new Thread[producers];
+        long start = System.nanoTime();
+        for (int i = 0; i < producers; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < ticksPerProducer; j++) {
+                    ingest.run();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        ingesting.set(false);
+        for (Thread thread : queryThreads) {
+            thread.join();
+        }
+        System.out.printf("%-16s %10.0f ticks/s %8.1f queries/s%n",
+                name, producers * ticksPerProducer / seconds, queriesRun.sum() / seconds);
+    }
+}
@@ -0,0 +1,132 @@
+package com.crypto.recommendation.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+    private static final double RANK_ERROR = 0.0165;
+    private static final long SEED = 11;
+
+    @Test
+    void quantileIsExactBelowCapacity() {
+        final var sketch = sketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.update(i);
+        }
+
+        assertThat(sketch.quantile(0.05)).isEqualTo(5);
+        assertThat(sketch.quantile(0.5)).isEqualTo(50);
+        assertThat(sketch.quantile(0.95)).isEqualTo(95);
+        assertThat(sketch.rank(50)).isEqualTo(50);
+    }
+
+    @Test
+    void quantileStaysWithinErrorBound() {
+        final var random = new Random(42);
+        final var values = new double[200_000];
+        final var sketch = sketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            sketch.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double fraction = 0.05; fraction < 1; fraction += 0.05) {
+            final var estimate = sketch.quantile(fraction);
+            final var trueRank = Math.abs(Arrays.binarySearch(values, estimate)) / (double) values.length;
+
+            assertThat(trueRank).isCloseTo(fraction, within(RANK_ERROR));
+        }
+        assertThat(sketch.getRetained()).isLessThan(3 * QuantileSketch.DEFAULT_K);
+    }
+
+    @Test
+    void sameSeedGivesSameEstimates() {
+        final var random = new Random(5);
+        final var first = sketch();
+        final var second = sketch();
+        for (int i = 0; i < 100_000; i++) {
+            final var value = random.nextDouble();
+            first.update(value);
+            second.update(value);
+        }
+
+        for (double fraction = 0.1; fraction < 1; fraction += 0.1) {
+            assertThat(first.quantile(fraction)).isEqualTo(second.quantile(fraction));
+        }
+    }
+
+    @Test
+    void mergeCombinesDailySketches() {
+        final var random = new Random(7);
+        final var merged = sketch();
+        final var values = new double[30 * 1_000];
+        for (int day = 0; day < 30; day++) {
+            final var daily = sketch();
+            for (int i = 0; i < 1_000; i++) {
+                final var value = 100 + day + random.nextDouble();
+                values[day * 1_000 + i] = value;
+                daily.update(value);
+            }
+            merged.merge(daily);
+        }
+        Arrays.sort(values);
+
+        assertThat(merged.getCount()).isEqualTo(values.length);
+        assertThat(merged.getMin()).isEqualTo(values[0]);
+        assertThat(merged.getMax()).isEqualTo(values[values.length - 1]);
+        assertThat(merged.rank(values[values.length / 2]) / (double) values.length)
+                .isCloseTo(0.5, within(RANK_ERROR));
+    }
+
+    @Test
+    void sortedViewMatchesSketchQueries() {
+        final var random = new Random(3);
+        final var sketch = sketch();
+        for (int i = 0; i < 50_000; i++) {
+            sketch.update(random.nextDouble() * 100);
+        }
+
+        final var view = sketch.sortedView();
+
+        for (double fraction = 0; fraction <= 1; fraction += 0.1) {
+            assertThat(view.quantile(fraction)).isEqualTo(sketch.quantile(fraction));
+        }
+        assertThat(view.rank(50)).isEqualTo(sketch.rank(50));
+        assertThat(view.rank(sketch.getMax())).isEqualTo(sketch.getCount());
+    }
+
+    @Test
+    void emptySketchReturnsNaN() {
+        final var sketch = sketch();
+
+        assertThat(sketch.quantile(0.5)).isNaN();
+        assertThat(sketch.rank(1)).isZero();
+    }
+
+    @Test
+    void quantileOutOfRange_throws_IllegalArgumentException() {
+        final var sketch = sketch();
+
+        assertThatThrownBy(() -> sketch.quantile(1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mergeWithDifferentK_throws_IllegalArgumentException() {
+        final var sketch = new QuantileSketch(100);
+
+        assertThatThrownBy(() -> sketch.merge(new QuantileSketch(200)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static QuantileSketch sketch() {
+        return new QuantileSketch(QuantileSketch.DEFAULT_K, new Random(SEED));
+    }
+}
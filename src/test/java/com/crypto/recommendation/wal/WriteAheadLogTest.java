@@ -0,0 +1,329 @@
+package com.crypto.recommendation.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteAheadLogTest {
+    private static final String HEADER = "timestamp,symbol,price";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverReplaysCommittedEntries() throws IOException {
+        final var committed = new CopyOnWriteArrayList<String>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(committed::addAll);
+            log.append("1641009600000,BTC,46813.21").join();
+            log.append("1641020400000,ETH,3715.32").join();
+        }
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(committed).containsExactly("1641009600000,BTC,46813.21", "1641020400000,ETH,3715.32");
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21", "1641020400000,ETH,3715.32");
+    }
+
+    @Test
+    void blockedListenerDoesNotHoldBackWrites() throws IOException {
+        final var release = new CountDownLatch(1);
+        final var applied = new CopyOnWriteArrayList<String>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 1)) {
+            log.recover(line -> { });
+            log.start(lines -> {
+                awaitLatch(release);
+                applied.addAll(lines);
+            });
+            final var first = log.append("1641009600000,BTC,46813.21");
+            final var second = log.append("1641020400000,ETH,3715.32");
+            final var segment = directory.resolve("segment-0000000001.wal");
+            final var twoBatches = 2 * (8 + 12) + "1641009600000,BTC,46813.21".length() + "1641020400000,ETH,3715.32".length();
+
+            try {
+                await(() -> size(segment) == twoBatches);
+
+                assertThat(first.isDone()).isFalse();
+                assertThat(second.isDone()).isFalse();
+            } finally {
+                release.countDown();
+            }
+            first.join();
+            second.join();
+        }
+
+        assertThat(applied).containsExactly("1641009600000,BTC,46813.21", "1641020400000,ETH,3715.32");
+    }
+
+    @Test
+    void recoverTruncatesTornTail() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        final var segment = directory.resolve("segment-0000000001.wal");
+        final var validSize = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21");
+        assertThat(Files.size(segment)).isEqualTo(validSize);
+    }
+
+    @Test
+    void recoverTruncatesZeroFilledTail() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        final var segment = directory.resolve("segment-0000000001.wal");
+        final var validSize = Files.size(segment);
+        Files.write(segment, new byte[4096], StandardOpenOption.APPEND);
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21");
+        assertThat(Files.size(segment)).isEqualTo(validSize);
+    }
+
+    @Test
+    void recoverTruncatesFinalBatchWithZeroGap() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        final var segment = directory.resolve("segment-0000000001.wal");
+        final var validSize = Files.size(segment);
+        // The crash lost the first page of the final batch but persisted its second entry and marker.
+        final var lost = entry("1641020400000,ETH,3715.32");
+        final var persisted = entry("1641031200000,XRP,0.8298");
+        final var batch = ByteBuffer.allocate(lost.length + persisted.length).put(lost).put(persisted).array();
+        Files.write(segment, new byte[lost.length], StandardOpenOption.APPEND);
+        Files.write(segment, persisted, StandardOpenOption.APPEND);
+        Files.write(segment, batchMarker(batch), StandardOpenOption.APPEND);
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21");
+        assertThat(Files.size(segment)).isEqualTo(validSize);
+    }
+
+    @Test
+    void recoverTruncatesFinalBatchWithoutMarker() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        final var segment = directory.resolve("segment-0000000001.wal");
+        final var validSize = Files.size(segment);
+        Files.write(segment, entry("1641020400000,ETH,3715.32"), StandardOpenOption.APPEND);
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21");
+        assertThat(Files.size(segment)).isEqualTo(validSize);
+    }
+
+    @Test
+    void recoverCorruptedEntryFollowedByValidEntries_throws_IOException() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            for (int i = 0; i < 5; i++) {
+                log.append("e" + i).join();
+            }
+        }
+        final var segment = directory.resolve("segment-0000000001.wal");
+        final var size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 22 + 8); // payload of the second batch's entry
+        }
+
+        final var log = new WriteAheadLog(directory, 1024, 16);
+
+        assertThatThrownBy(() -> log.recover(line -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("at byte 22");
+        assertThat(Files.size(segment)).isEqualTo(size);
+    }
+
+    @Test
+    void compactFoldsSealedSegments() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1, 1)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+            log.append("1641020400000,ETH,3715.32").join();
+            await(() -> Files.exists(directory.resolve("segment-0000000003.wal"))); // rolls after acknowledging
+
+            final var folded = log.compact(HEADER);
+
+            assertThat(folded).isEqualTo(2);
+        }
+
+        final var reopened = new WriteAheadLog(directory, 1024, 16);
+        final var compacted = reopened.compactedFile();
+        final var replayed = new ArrayList<String>();
+        reopened.recover(replayed::add);
+
+        assertThat(compacted).isPresent();
+        assertThat(Files.readAllLines(compacted.get()))
+                .containsExactly(HEADER, "1641009600000,BTC,46813.21", "1641020400000,ETH,3715.32");
+        assertThat(replayed).isEmpty();
+    }
+
+    @Test
+    void recoverDropsSegmentsAlreadyCompacted() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        Files.writeString(directory.resolve("compacted-0000000001.csv"), HEADER + "\n1641009600000,BTC,46813.21\n");
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).isEmpty();
+        assertThat(directory.resolve("segment-0000000001.wal")).doesNotExist();
+    }
+
+    @Test
+    void recoverRemovesUnfinishedCompaction() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        final var temp = directory.resolve("compacted-0000000001.csv.tmp");
+        Files.writeString(temp, HEADER + "\n1641009600000,BTC,46813.21\n");
+
+        final var result = new ArrayList<String>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21");
+        assertThat(temp).doesNotExist();
+    }
+
+    @Test
+    void failedRollDoesNotFailCommittedBatch() throws IOException {
+        final var committed = new CopyOnWriteArrayList<String>();
+        final var log = new WriteAheadLog(directory, 1, 16);
+        log.recover(line -> { });
+        log.start(committed::addAll);
+        Files.delete(directory.resolve("segment-0000000001.wal"));
+        Files.delete(directory); // the roll after the first batch can no longer create a segment
+
+        final var first = log.append("1641009600000,BTC,46813.21");
+
+        assertThat(first.join()).isNull();
+        assertThat(committed).containsExactly("1641009600000,BTC,46813.21");
+        await(() -> log.append("1641020400000,ETH,3715.32").isCompletedExceptionally());
+        log.close();
+    }
+
+    @Test
+    void compactBeforeStartDoesNothing() throws IOException {
+        final var log = new WriteAheadLog(directory.resolve("not-created-yet"), 1024, 16);
+
+        final var result = log.compact(HEADER);
+
+        assertThat(result).isZero();
+    }
+
+    @Test
+    void appendBeforeStartFails() {
+        final var log = new WriteAheadLog(directory, 1024, 16);
+
+        final var result = log.append("1641009600000,BTC,46813.21");
+
+        assertThat(result).isCompletedExceptionally();
+    }
+
+    @Test
+    void appendAfterRestartContinuesInNewSegment() throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641009600000,BTC,46813.21").join();
+        }
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024, 16)) {
+            log.recover(line -> { });
+            log.start(lines -> { });
+            log.append("1641020400000,ETH,3715.32").join();
+        }
+
+        final List<String> result = new ArrayList<>();
+        new WriteAheadLog(directory, 1024, 16).recover(result::add);
+
+        assertThat(result).containsExactly("1641009600000,BTC,46813.21", "1641020400000,ETH,3715.32");
+        assertThat(directory.resolve("segment-0000000002.wal")).exists();
+    }
+
+    private static byte[] entry(String line) {
+        final var payload = line.getBytes(StandardCharsets.UTF_8);
+        final var crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(8 + payload.length).putInt(payload.length).putInt((int) crc.getValue())
+                .put(payload).array();
+    }
+
+    private static byte[] batchMarker(byte[] batch) {
+        final var crc = new CRC32();
+        crc.update(batch);
+        return ByteBuffer.allocate(12).putInt(-1).putInt(batch.length).putInt((int) crc.getValue()).array();
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}